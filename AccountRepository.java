@@ -0,0 +1,38 @@
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Account Storage
+ * Everything the application needs from the users table. Implementations must keep
+ * account_number and email unique and report constraint violations as SQLExceptions.
+ */
+interface AccountRepository {
+
+    // Find the account matching the credentials, or null
+    User findByCredentials(String accountNumber, String passwordHash) throws SQLException;
+
+    // Find an account by account number, or null
+    User findByAccountNumber(String accountNumber) throws SQLException;
+
+    // Find an account by email, or null
+    User findByEmail(String email) throws SQLException;
+
+    // Create an account and return its generated user id
+    int create(String accountNumber, String fullName, String email, String phone,
+               String passwordHash, double balance, String role) throws SQLException;
+
+    // Add (or with a negative delta, subtract) from a balance; false if the account does not exist
+    boolean adjustBalance(int userId, double delta) throws SQLException;
+
+    // Move money between two accounts atomically; nothing changes if either side fails
+    void transfer(int fromUserId, int toUserId, double amount) throws SQLException;
+
+    // Stored password hash, or null if the account does not exist
+    String getPasswordHash(int userId) throws SQLException;
+
+    // Replace the password hash; false if the account does not exist
+    boolean updatePassword(int userId, String passwordHash) throws SQLException;
+
+    // All accounts, ordered by user id
+    List<User> findAll() throws SQLException;
+}
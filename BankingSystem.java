@@ -1,15 +1,22 @@
 import java.sql.*;
+import java.util.List;
 import java.util.Scanner;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 
 /**
  * Smart Banking Management System
  * Features: User Account Management, Fund Transfers, Transaction History, Role-Based Security
  * Author: Avi Jaiswal
  * Technologies: Java, JDBC, MySQL, OOP
+ * Storage: MySQL by default, or embedded in-memory with --storage=memory
  */
 
 public class BankingSystem {
@@ -20,8 +27,12 @@ public class BankingSystem {
     private static final String DB_PASSWORD = "your_password";
     
     private static Connection connection = null;
+    private static AccountRepository accounts = null;
+    private static TransactionRepository transactions = null;
+    private static LimitRepository limits = null;
     private static Scanner scanner = new Scanner(System.in);
     private static User currentUser = null;
+    private static VelocityLimiter velocityLimiter = new VelocityLimiter();
     
     public static void main(String[] args) {
         System.out.println("╔═══════════════════════════════════════════════════════╗");
@@ -29,9 +40,24 @@ public class BankingSystem {
         System.out.println("║     Secure • Fast • Reliable                         ║");
         System.out.println("╚═══════════════════════════════════════════════════════╝");
         
+        String storage = "mysql";
+        for (String arg : args) {
+            if (arg.startsWith("--storage=")) {
+                storage = arg.substring("--storage=".length());
+            }
+        }
+        
         try {
-            // Initialize database connection
-            initializeDatabase();
+            // Initialize storage backend
+            if ("memory".equals(storage)) {
+                initializeInMemoryStorage();
+            } else if ("mysql".equals(storage)) {
+                initializeDatabase();
+            } else {
+                System.err.println("Unknown storage '" + storage + "'. Use --storage=mysql or --storage=memory.");
+                System.exit(1);
+            }
+            initializeVelocityLimits();
             
             boolean running = true;
             while (running) {
@@ -55,6 +81,9 @@ public class BankingSystem {
         try {
             Class.forName("com.mysql.cj.jdbc.Driver");
             connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            accounts = new JdbcAccountRepository(connection);
+            transactions = new JdbcTransactionRepository(connection);
+            limits = new JdbcLimitRepository(connection);
             System.out.println("✓ Database connection established successfully!");
         } catch (ClassNotFoundException e) {
             System.err.println("MySQL JDBC Driver not found. Please add it to classpath.");
@@ -65,6 +94,53 @@ public class BankingSystem {
         }
     }
     
+    // Initialize embedded in-memory storage with the same sample accounts as database_setup.sql
+    private static void initializeInMemoryStorage() throws SQLException {
+        InMemoryAccountRepository memoryAccounts = new InMemoryAccountRepository();
+        accounts = memoryAccounts;
+        transactions = new InMemoryTransactionRepository(memoryAccounts);
+        limits = new InMemoryLimitRepository();
+        
+        // Mirrors the users and transactions INSERTs in database_setup.sql row for row,
+        // so both backends start with the same accounts and history
+        String[][] sampleAccounts = {
+            {"SB000001", "System Administrator", "admin@smartbank.com", "9999999999", "admin123", "1000000.00", "ADMIN", "Admin account created"},
+            {"SB000002", "John Doe", "john@example.com", "9876543210", "test123", "50000.00", "USER", "Account created with initial deposit"},
+            {"SB000003", "Jane Smith", "jane@example.com", "9876543211", "test123", "75000.00", "USER", "Account created with initial deposit"},
+            {"SB000004", "Robert Johnson", "robert@example.com", "9876543212", "test123", "100000.00", "USER", "Account created with initial deposit"}
+        };
+        for (String[] sample : sampleAccounts) {
+            double balance = Double.parseDouble(sample[5]);
+            int userId = accounts.create(sample[0], sample[1], sample[2], sample[3], hashPassword(sample[4]), balance, sample[6]);
+            transactions.log(userId, "ACCOUNT_CREATED", balance, sample[7]);
+        }
+        
+        System.out.println("✓ In-memory storage initialized (data is not persisted).");
+    }
+    
+    // Load admin-configured limits and rebuild velocity counters from the last day of debits
+    private static void initializeVelocityLimits() {
+        try {
+            limits.loadInto(velocityLimiter);
+        } catch (SQLException e) {
+            System.err.println("Warning: Failed to load transaction limits, using defaults: " + e.getMessage());
+        }
+        
+        try {
+            Timestamp since = new Timestamp(System.currentTimeMillis() - 24L * 60 * 60 * 1000);
+            
+            velocityLimiter.clear();
+            int replayed = 0;
+            for (TransactionRecord record : transactions.findByTypeSince(since, "WITHDRAWAL", "TRANSFER_SENT")) {
+                velocityLimiter.record(record.getUserId(), record.getAmount(), record.getDate().getTime());
+                replayed++;
+            }
+            System.out.println("✓ Velocity limits loaded (" + replayed + " recent debits replayed).");
+        } catch (SQLException e) {
+            System.err.println("Warning: Failed to rebuild velocity counters: " + e.getMessage());
+        }
+    }
+    
     // Show login/registration menu
     private static void showLoginMenu() {
         System.out.println("\n╔═══════════════════════════════════════╗");
@@ -110,22 +186,10 @@ public class BankingSystem {
         
         try {
             String hashedPassword = hashPassword(password);
-            String query = "SELECT * FROM users WHERE account_number = ? AND password = ?";
-            PreparedStatement stmt = connection.prepareStatement(query);
-            stmt.setString(1, accountNumber);
-            stmt.setString(2, hashedPassword);
-            
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                currentUser = new User(
-                    rs.getInt("user_id"),
-                    rs.getString("account_number"),
-                    rs.getString("full_name"),
-                    rs.getString("email"),
-                    rs.getDouble("balance"),
-                    rs.getString("role")
-                );
+            User user = accounts.findByCredentials(accountNumber, hashedPassword);
+            
+            if (user != null) {
+                currentUser = user;
                 
                 System.out.println("\n✓ Login successful! Welcome, " + currentUser.getFullName());
                 logTransaction(currentUser.getUserId(), "LOGIN", 0, "User logged in");
@@ -172,36 +236,25 @@ public class BankingSystem {
                 return;
             }
             
+            if (accounts.findByEmail(email) != null) {
+                System.out.println("❌ An account with this email already exists.");
+                return;
+            }
+            
             // Generate unique account number
             String accountNumber = generateAccountNumber();
             String hashedPassword = hashPassword(password);
             
-            // Insert into database
-            String query = "INSERT INTO users (account_number, full_name, email, phone, password, balance, role) VALUES (?, ?, ?, ?, ?, ?, 'USER')";
-            PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);
-            stmt.setString(1, accountNumber);
-            stmt.setString(2, fullName);
-            stmt.setString(3, email);
-            stmt.setString(4, phone);
-            stmt.setString(5, hashedPassword);
-            stmt.setDouble(6, initialDeposit);
-            
-            int rowsAffected = stmt.executeQuery();
-            
-            if (rowsAffected > 0) {
-                ResultSet generatedKeys = stmt.getGeneratedKeys();
-                if (generatedKeys.next()) {
-                    int userId = generatedKeys.getInt(1);
-                    logTransaction(userId, "ACCOUNT_CREATED", initialDeposit, "New account created with initial deposit");
-                }
-                
-                System.out.println("\n✓ Account created successfully!");
-                System.out.println("═══════════════════════════════════════");
-                System.out.println("Your Account Number: " + accountNumber);
-                System.out.println("Initial Balance: ₹" + initialDeposit);
-                System.out.println("═══════════════════════════════════════");
-                System.out.println("Please save your account number for future login.");
-            }
+            // Insert into storage
+            int userId = accounts.create(accountNumber, fullName, email, phone, hashedPassword, initialDeposit, "USER");
+            logTransaction(userId, "ACCOUNT_CREATED", initialDeposit, "New account created with initial deposit");
+            
+            System.out.println("\n✓ Account created successfully!");
+            System.out.println("═══════════════════════════════════════");
+            System.out.println("Your Account Number: " + accountNumber);
+            System.out.println("Initial Balance: ₹" + initialDeposit);
+            System.out.println("═══════════════════════════════════════");
+            System.out.println("Please save your account number for future login.");
             
         } catch (SQLException e) {
             System.out.println("❌ Account creation failed: " + e.getMessage());
@@ -227,6 +280,8 @@ public class BankingSystem {
         
         if ("ADMIN".equals(currentUser.getRole())) {
             System.out.println("7. Admin Panel (View All Users)");
+            System.out.println("8. Transaction Limits");
+            System.out.println("9. Generate Monthly Statements");
         }
         
         System.out.println("0. Logout");
@@ -262,6 +317,20 @@ public class BankingSystem {
                         System.out.println("❌ Unauthorized access.");
                     }
                     break;
+                case 8:
+                    if ("ADMIN".equals(currentUser.getRole())) {
+                        manageTransactionLimits();
+                    } else {
+                        System.out.println("❌ Unauthorized access.");
+                    }
+                    break;
+                case 9:
+                    if ("ADMIN".equals(currentUser.getRole())) {
+                        generateMonthlyStatements();
+                    } else {
+                        System.out.println("❌ Unauthorized access.");
+                    }
+                    break;
                 case 0:
                     logout();
                     break;
@@ -301,15 +370,8 @@ public class BankingSystem {
                 return;
             }
             
-            // Update balance in database
-            String query = "UPDATE users SET balance = balance + ? WHERE user_id = ?";
-            PreparedStatement stmt = connection.prepareStatement(query);
-            stmt.setDouble(1, amount);
-            stmt.setInt(2, currentUser.getUserId());
-            
-            int rowsAffected = stmt.executeUpdate();
-            
-            if (rowsAffected > 0) {
+            // Update balance in storage
+            if (accounts.adjustBalance(currentUser.getUserId(), amount)) {
                 currentUser.setBalance(currentUser.getBalance() + amount);
                 logTransaction(currentUser.getUserId(), "DEPOSIT", amount, "Cash deposit");
                 
@@ -353,15 +415,25 @@ public class BankingSystem {
                 return;
             }
             
-            // Update balance in database
-            String query = "UPDATE users SET balance = balance - ? WHERE user_id = ?";
-            PreparedStatement stmt = connection.prepareStatement(query);
-            stmt.setDouble(1, amount);
-            stmt.setInt(2, currentUser.getUserId());
+            // Reserve against velocity limits; released again if the debit does not go through
+            long now = System.currentTimeMillis();
+            String violation = velocityLimiter.tryAcquire(currentUser.getUserId(), amount, now);
+            if (violation != null) {
+                System.out.println("❌ " + violation);
+                return;
+            }
             
-            int rowsAffected = stmt.executeUpdate();
+            // Update balance in storage
+            boolean debited = false;
+            try {
+                debited = accounts.adjustBalance(currentUser.getUserId(), -amount);
+            } finally {
+                if (!debited) {
+                    velocityLimiter.release(currentUser.getUserId(), amount, now);
+                }
+            }
             
-            if (rowsAffected > 0) {
+            if (debited) {
                 currentUser.setBalance(currentUser.getBalance() - amount);
                 logTransaction(currentUser.getUserId(), "WITHDRAWAL", amount, "Cash withdrawal");
                 
@@ -390,23 +462,20 @@ public class BankingSystem {
             String recipientAccount = scanner.nextLine();
             
             // Check if recipient exists
-            String checkQuery = "SELECT * FROM users WHERE account_number = ?";
-            PreparedStatement checkStmt = connection.prepareStatement(checkQuery);
-            checkStmt.setString(1, recipientAccount);
-            ResultSet rs = checkStmt.executeQuery();
+            User recipient = accounts.findByAccountNumber(recipientAccount);
             
-            if (!rs.next()) {
+            if (recipient == null) {
                 System.out.println("❌ Recipient account not found.");
                 return;
             }
             
-            if (recipientAccount.equals(currentUser.getAccountNumber())) {
+            if (recipient.getUserId() == currentUser.getUserId()) {
                 System.out.println("❌ Cannot transfer to your own account.");
                 return;
             }
             
-            int recipientId = rs.getInt("user_id");
-            String recipientName = rs.getString("full_name");
+            int recipientId = recipient.getUserId();
+            String recipientName = recipient.getFullName();
             
             System.out.println("Recipient: " + recipientName);
             System.out.print("Enter amount to transfer: ₹");
@@ -428,27 +497,22 @@ public class BankingSystem {
                 return;
             }
             
-            // Start transaction (ACID compliance)
-            connection.setAutoCommit(false);
+            // Reserve against velocity limits; released again if the transfer fails
+            long now = System.currentTimeMillis();
+            String violation = velocityLimiter.tryAcquire(currentUser.getUserId(), amount, now);
+            if (violation != null) {
+                System.out.println("❌ " + violation);
+                return;
+            }
             
             try {
-                // Deduct from sender
-                String deductQuery = "UPDATE users SET balance = balance - ? WHERE user_id = ?";
-                PreparedStatement deductStmt = connection.prepareStatement(deductQuery);
-                deductStmt.setDouble(1, amount);
-                deductStmt.setInt(2, currentUser.getUserId());
-                deductStmt.executeUpdate();
-                
-                // Add to recipient
-                String addQuery = "UPDATE users SET balance = balance + ? WHERE user_id = ?";
-                PreparedStatement addStmt = connection.prepareStatement(addQuery);
-                addStmt.setDouble(1, amount);
-                addStmt.setInt(2, recipientId);
-                addStmt.executeUpdate();
-                
-                // Commit transaction
-                connection.commit();
-                connection.setAutoCommit(true);
+                // Move funds atomically (ACID compliance)
+                try {
+                    accounts.transfer(currentUser.getUserId(), recipientId, amount);
+                } catch (SQLException e) {
+                    velocityLimiter.release(currentUser.getUserId(), amount, now);
+                    throw e;
+                }
                 
                 currentUser.setBalance(currentUser.getBalance() - amount);
                 
@@ -462,9 +526,7 @@ public class BankingSystem {
                 System.out.println("New Balance: ₹" + String.format("%.2f", currentUser.getBalance()));
                 
             } catch (SQLException e) {
-                // Rollback on error
-                connection.rollback();
-                connection.setAutoCommit(true);
+                // Storage has rolled back both sides
                 System.out.println("❌ Transfer failed: " + e.getMessage());
             }
             
@@ -483,28 +545,22 @@ public class BankingSystem {
         System.out.println("\n═══════════════ TRANSACTION HISTORY ═══════════════");
         
         try {
-            String query = "SELECT * FROM transactions WHERE user_id = ? ORDER BY transaction_date DESC LIMIT 10";
-            PreparedStatement stmt = connection.prepareStatement(query);
-            stmt.setInt(1, currentUser.getUserId());
-            
-            ResultSet rs = stmt.executeQuery();
+            List<TransactionRecord> recent = transactions.findRecent(currentUser.getUserId(), 10);
             
             System.out.println("─────────────────────────────────────────────────────────────────────");
             System.out.printf("%-20s %-20s %-15s %s%n", "Date/Time", "Type", "Amount", "Description");
             System.out.println("─────────────────────────────────────────────────────────────────────");
             
-            boolean hasTransactions = false;
-            while (rs.next()) {
-                hasTransactions = true;
-                String date = rs.getTimestamp("transaction_date").toString();
-                String type = rs.getString("transaction_type");
-                double amount = rs.getDouble("amount");
-                String description = rs.getString("description");
+            for (TransactionRecord record : recent) {
+                String date = record.getDate().toString();
+                String type = record.getType();
+                double amount = record.getAmount();
+                String description = record.getDescription();
                 
                 System.out.printf("%-20s %-20s ₹%-14.2f %s%n", date, type, amount, description);
             }
             
-            if (!hasTransactions) {
+            if (recent.isEmpty()) {
                 System.out.println("No transactions found.");
             }
             
@@ -538,13 +594,9 @@ public class BankingSystem {
             
             // Verify current password
             String hashedCurrentPassword = hashPassword(currentPassword);
-            String checkQuery = "SELECT password FROM users WHERE user_id = ?";
-            PreparedStatement checkStmt = connection.prepareStatement(checkQuery);
-            checkStmt.setInt(1, currentUser.getUserId());
-            ResultSet rs = checkStmt.executeQuery();
+            String storedPassword = accounts.getPasswordHash(currentUser.getUserId());
             
-            if (rs.next()) {
-                String storedPassword = rs.getString("password");
+            if (storedPassword != null) {
                 if (!storedPassword.equals(hashedCurrentPassword)) {
                     System.out.println("❌ Current password is incorrect.");
                     return;
@@ -553,14 +605,7 @@ public class BankingSystem {
             
             // Update password
             String hashedNewPassword = hashPassword(newPassword);
-            String updateQuery = "UPDATE users SET password = ? WHERE user_id = ?";
-            PreparedStatement updateStmt = connection.prepareStatement(updateQuery);
-            updateStmt.setString(1, hashedNewPassword);
-            updateStmt.setInt(2, currentUser.getUserId());
-            
-            int rowsAffected = updateStmt.executeUpdate();
-            
-            if (rowsAffected > 0) {
+            if (accounts.updatePassword(currentUser.getUserId(), hashedNewPassword)) {
                 System.out.println("✓ Password changed successfully!");
                 logTransaction(currentUser.getUserId(), "PASSWORD_CHANGED", 0, "User changed password");
             }
@@ -577,21 +622,19 @@ public class BankingSystem {
         System.out.println("\n═══════════════ ADMIN PANEL ═══════════════");
         
         try {
-            String query = "SELECT account_number, full_name, email, balance, role FROM users";
-            Statement stmt = connection.createStatement();
-            ResultSet rs = stmt.executeQuery(query);
+            List<User> users = accounts.findAll();
             
             System.out.println("─────────────────────────────────────────────────────────────────────────────");
             System.out.printf("%-15s %-25s %-30s %-15s %s%n", "Account No", "Name", "Email", "Balance", "Role");
             System.out.println("─────────────────────────────────────────────────────────────────────────────");
             
-            while (rs.next()) {
+            for (User user : users) {
                 System.out.printf("%-15s %-25s %-30s ₹%-14.2f %s%n",
-                    rs.getString("account_number"),
-                    rs.getString("full_name"),
-                    rs.getString("email"),
-                    rs.getDouble("balance"),
-                    rs.getString("role")
+                    user.getAccountNumber(),
+                    user.getFullName(),
+                    user.getEmail(),
+                    user.getBalance(),
+                    user.getRole()
                 );
             }
             
@@ -604,6 +647,91 @@ public class BankingSystem {
         pressEnterToContinue();
     }
     
+    // Admin: view and update velocity limits
+    private static void manageTransactionLimits() {
+        System.out.println("\n═══════════════ TRANSACTION LIMITS ═══════════════");
+        System.out.println("─────────────────────────────────────────────────────");
+        System.out.printf("%-4s %-10s %-12s %s%n", "No", "Window", "Max Debits", "Max Amount");
+        System.out.println("─────────────────────────────────────────────────────");
+        for (int w = 0; w < VelocityLimiter.WINDOW_NAMES.length; w++) {
+            System.out.printf("%-4d %-10s %-12d ₹%.2f%n", w + 1, VelocityLimiter.WINDOW_NAMES[w],
+                velocityLimiter.getMaxCount(w), velocityLimiter.getMaxAmount(w));
+        }
+        System.out.println("─────────────────────────────────────────────────────");
+        System.out.println("(A limit of 0 disables it)");
+        System.out.print("\nEnter window to update (0 to go back): ");
+        
+        try {
+            int choice = scanner.nextInt();
+            scanner.nextLine(); // Consume newline
+            
+            if (choice == 0) {
+                return;
+            }
+            if (choice < 1 || choice > VelocityLimiter.WINDOW_NAMES.length) {
+                System.out.println("❌ Invalid choice.");
+                return;
+            }
+            int window = choice - 1;
+            
+            System.out.print("Max debits per " + VelocityLimiter.WINDOW_NAMES[window].toLowerCase() + ": ");
+            long maxCount = scanner.nextLong();
+            System.out.print("Max amount per " + VelocityLimiter.WINDOW_NAMES[window].toLowerCase() + ": ₹");
+            double maxAmount = scanner.nextDouble();
+            scanner.nextLine(); // Consume newline
+            
+            if (maxCount < 0 || maxAmount < 0) {
+                System.out.println("❌ Limits cannot be negative.");
+                return;
+            }
+            
+            limits.save(VelocityLimiter.WINDOW_NAMES[window], maxCount, maxAmount);
+            
+            velocityLimiter.setLimit(window, maxCount, maxAmount);
+            System.out.println("✓ Limits updated for " + VelocityLimiter.WINDOW_NAMES[window] + " window.");
+            
+        } catch (SQLException e) {
+            System.out.println("❌ Failed to update limits: " + e.getMessage());
+        } catch (Exception e) {
+            System.out.println("❌ Invalid input. Please enter valid numbers.");
+            scanner.nextLine(); // Clear buffer
+        }
+        
+        pressEnterToContinue();
+    }
+    
+    // Admin: generate statement files for every account with activity in a month
+    private static void generateMonthlyStatements() {
+        System.out.println("\n═══════════════ MONTHLY STATEMENTS ═══════════════");
+        
+        try {
+            System.out.print("Statement month (YYYY-MM): ");
+            YearMonth month = YearMonth.parse(scanner.nextLine().trim());
+            
+            System.out.print("Output folder [statements/" + month + "]: ");
+            String folder = scanner.nextLine().trim();
+            Path outputDir = Paths.get(folder.isEmpty() ? "statements/" + month : folder);
+            
+            int writerThreads = Runtime.getRuntime().availableProcessors();
+            System.out.println("Generating statements with " + writerThreads + " writer threads...");
+            
+            new StatementGenerator(transactions, writerThreads).generate(month, outputDir);
+            System.out.println("Statements saved to: " + outputDir.toAbsolutePath());
+            
+        } catch (DateTimeParseException e) {
+            System.out.println("❌ Invalid month. Please use the format YYYY-MM.");
+        } catch (SQLException e) {
+            System.out.println("❌ Statement generation failed: " + e.getMessage());
+        } catch (IOException e) {
+            System.out.println("❌ Could not write statements: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("❌ Statement generation interrupted.");
+        }
+        
+        pressEnterToContinue();
+    }
+    
     // Logout
     private static void logout() {
         logTransaction(currentUser.getUserId(), "LOGOUT", 0, "User logged out");
@@ -614,13 +742,7 @@ public class BankingSystem {
     // Log transaction
     private static void logTransaction(int userId, String type, double amount, String description) {
         try {
-            String query = "INSERT INTO transactions (user_id, transaction_type, amount, description) VALUES (?, ?, ?, ?)";
-            PreparedStatement stmt = connection.prepareStatement(query);
-            stmt.setInt(1, userId);
-            stmt.setString(2, type);
-            stmt.setDouble(3, amount);
-            stmt.setString(4, description);
-            stmt.executeUpdate();
+            transactions.log(userId, type, amount, description);
         } catch (SQLException e) {
             System.err.println("Warning: Failed to log transaction: " + e.getMessage());
         }
@@ -670,33 +792,3 @@ public class BankingSystem {
         }
     }
 }
-
-// User class (OOP)
-class User {
-    private int userId;
-    private String accountNumber;
-    private String fullName;
-    private String email;
-    private double balance;
-    private String role;
-    
-    public User(int userId, String accountNumber, String fullName, String email, double balance, String role) {
-        this.userId = userId;
-        this.accountNumber = accountNumber;
-        this.fullName = fullName;
-        this.email = email;
-        this.balance = balance;
-        this.role = role;
-    }
-    
-    // Getters
-    public int getUserId() { return userId; }
-    public String getAccountNumber() { return accountNumber; }
-    public String getFullName() { return fullName; }
-    public String getEmail() { return email; }
-    public double getBalance() { return balance; }
-    public String getRole() { return role; }
-    
-    // Setters
-    public void setBalance(double balance) { this.balance = balance; }
-}
\ No newline at end of file
@@ -0,0 +1,217 @@
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Embedded Account Storage
+ * In-memory AccountRepository with concurrent hash indexes on user id, account number and email.
+ * Mirrors the users table: unique account_number/email, case-insensitive lookups,
+ * balances kept to 2 decimal places. An account becomes visible only once it is in byId,
+ * so lookups never return a half-inserted row. Writes share the read side of a store-wide
+ * lock; consistent reads take the write side to shut them out for their duration.
+ */
+class InMemoryAccountRepository implements AccountRepository {
+
+    private static final Set<String> ROLES = new HashSet<>(Arrays.asList("USER", "ADMIN"));
+
+    private final ConcurrentHashMap<Integer, Account> byId = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Account> byAccountNumber = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Account> byEmail = new ConcurrentHashMap<>();
+    private final AtomicInteger nextUserId = new AtomicInteger();
+    private final ReentrantReadWriteLock storeLock = new ReentrantReadWriteLock();
+
+    @Override
+    public User findByCredentials(String accountNumber, String passwordHash) {
+        Account account = accountNumber == null ? null : visible(byAccountNumber.get(key(accountNumber)));
+        return account != null && account.passwordHash.equals(passwordHash) ? account.toUser() : null;
+    }
+
+    @Override
+    public User findByAccountNumber(String accountNumber) {
+        Account account = accountNumber == null ? null : visible(byAccountNumber.get(key(accountNumber)));
+        return account == null ? null : account.toUser();
+    }
+
+    @Override
+    public User findByEmail(String email) {
+        Account account = email == null ? null : visible(byEmail.get(key(email)));
+        return account == null ? null : account.toUser();
+    }
+
+    // Lookup by primary key (used by the in-memory transaction store for its foreign key)
+    User findById(int userId) {
+        Account account = byId.get(userId);
+        return account == null ? null : account.toUser();
+    }
+
+    @Override
+    public int create(String accountNumber, String fullName, String email, String phone,
+                      String passwordHash, double balance, String role) throws SQLException {
+        if (accountNumber == null || fullName == null || email == null || passwordHash == null) {
+            throw new SQLIntegrityConstraintViolationException("Column cannot be null");
+        }
+        if (!ROLES.contains(role)) {
+            throw new SQLException("Data truncated for column 'role'");
+        }
+
+        Account account = new Account(nextUserId.incrementAndGet(), accountNumber, fullName, email, phone,
+            passwordHash, round(balance), role);
+
+        writes().lock();
+        try {
+            // Claim both unique keys first; the account is published through byId last
+            if (byAccountNumber.putIfAbsent(key(accountNumber), account) != null) {
+                throw new SQLIntegrityConstraintViolationException("Duplicate entry '" + accountNumber + "' for key 'users.account_number'");
+            }
+            if (byEmail.putIfAbsent(key(email), account) != null) {
+                byAccountNumber.remove(key(accountNumber), account);
+                throw new SQLIntegrityConstraintViolationException("Duplicate entry '" + email + "' for key 'users.email'");
+            }
+            byId.put(account.userId, account);
+            return account.userId;
+        } finally {
+            writes().unlock();
+        }
+    }
+
+    @Override
+    public boolean adjustBalance(int userId, double delta) {
+        Account account = byId.get(userId);
+        if (account == null) {
+            return false;
+        }
+        writes().lock();
+        try {
+            synchronized (account) {
+                account.balance = round(account.balance + delta);
+            }
+        } finally {
+            writes().unlock();
+        }
+        return true;
+    }
+
+    @Override
+    public void transfer(int fromUserId, int toUserId, double amount) throws SQLException {
+        Account sender = byId.get(fromUserId);
+        if (sender == null) {
+            throw new SQLException("Sender account not found.");
+        }
+        Account recipient = byId.get(toUserId);
+        if (recipient == null) {
+            throw new SQLException("Recipient account not found.");
+        }
+
+        // Lock in user id order so concurrent opposite transfers cannot deadlock
+        Account first = fromUserId < toUserId ? sender : recipient;
+        Account second = first == sender ? recipient : sender;
+        writes().lock();
+        try {
+            synchronized (first) {
+                synchronized (second) {
+                    sender.balance = round(sender.balance - amount);
+                    recipient.balance = round(recipient.balance + amount);
+                }
+            }
+        } finally {
+            writes().unlock();
+        }
+    }
+
+    @Override
+    public String getPasswordHash(int userId) {
+        Account account = byId.get(userId);
+        return account == null ? null : account.passwordHash;
+    }
+
+    @Override
+    public boolean updatePassword(int userId, String passwordHash) throws SQLException {
+        if (passwordHash == null) {
+            throw new SQLIntegrityConstraintViolationException("Column 'password' cannot be null");
+        }
+        Account account = byId.get(userId);
+        if (account == null) {
+            return false;
+        }
+        writes().lock();
+        try {
+            account.passwordHash = passwordHash;
+        } finally {
+            writes().unlock();
+        }
+        return true;
+    }
+
+    @Override
+    public List<User> findAll() {
+        List<User> users = new ArrayList<>();
+        for (Account account : byId.values()) {
+            users.add(account.toUser());
+        }
+        users.sort(Comparator.comparingInt(User::getUserId));
+        return users;
+    }
+
+    // Held (shared) by every write to the accounts or the transaction log
+    Lock writes() {
+        return storeLock.readLock();
+    }
+
+    // Held (exclusive) while a consistent read runs; no write can start until it is released
+    Lock consistentReads() {
+        return storeLock.writeLock();
+    }
+
+    // Secondary indexes may hold an account whose insert has not finished yet
+    private Account visible(Account account) {
+        return account != null && byId.get(account.userId) == account ? account : null;
+    }
+
+    // MySQL's default collation compares these columns case-insensitively
+    private static String key(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    // DECIMAL(15, 2)
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    // One row of the users table; balance is guarded by the account's monitor
+    private static class Account {
+        final int userId;
+        final String accountNumber;
+        final String fullName;
+        final String email;
+        final String phone;
+        final String role;
+        volatile String passwordHash;
+        double balance;
+
+        Account(int userId, String accountNumber, String fullName, String email, String phone,
+                String passwordHash, double balance, String role) {
+            this.userId = userId;
+            this.accountNumber = accountNumber;
+            this.fullName = fullName;
+            this.email = email;
+            this.phone = phone;
+            this.passwordHash = passwordHash;
+            this.balance = balance;
+            this.role = role;
+        }
+
+        synchronized User toUser() {
+            return new User(userId, accountNumber, fullName, email, balance, role);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Embedded Velocity Limit Storage
+ * In-memory LimitRepository; limits last until the application exits.
+ */
+class InMemoryLimitRepository implements LimitRepository {
+
+    private final Map<String, Limit> limits = new ConcurrentHashMap<>();
+
+    @Override
+    public void loadInto(VelocityLimiter limiter) {
+        for (int w = 0; w < VelocityLimiter.WINDOW_NAMES.length; w++) {
+            Limit limit = limits.get(VelocityLimiter.WINDOW_NAMES[w]);
+            if (limit != null) {
+                limiter.setLimit(w, limit.maxCount, limit.maxAmount);
+            }
+        }
+    }
+
+    @Override
+    public void save(String windowName, long maxCount, double maxAmount) {
+        if (VelocityLimiter.windowIndex(windowName) < 0) {
+            return;
+        }
+        limits.put(windowName, new Limit(maxCount, maxAmount));
+    }
+
+    // One row of the transaction_limits table
+    private static class Limit {
+        final long maxCount;
+        final double maxAmount;
+
+        Limit(long maxCount, double maxAmount) {
+            this.maxCount = maxCount;
+            this.maxAmount = maxAmount;
+        }
+    }
+}
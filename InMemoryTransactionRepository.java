@@ -0,0 +1,158 @@
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Embedded Transaction Storage
+ * In-memory TransactionRepository keeping one append-only list per user.
+ * Mirrors the transactions table: known types only, user must exist,
+ * timestamps with whole-second precision.
+ */
+class InMemoryTransactionRepository implements TransactionRepository {
+
+    private static final Set<String> TYPES = new HashSet<>(Arrays.asList(
+        "DEPOSIT", "WITHDRAWAL", "TRANSFER_SENT", "TRANSFER_RECEIVED",
+        "ACCOUNT_CREATED", "LOGIN", "LOGOUT", "PASSWORD_CHANGED"));
+
+    private static final Comparator<TransactionRecord> BY_DATE =
+        Comparator.comparing(TransactionRecord::getDate).thenComparingInt(TransactionRecord::getTransactionId);
+
+    private final InMemoryAccountRepository accounts;
+    private final ConcurrentHashMap<Integer, List<TransactionRecord>> byUser = new ConcurrentHashMap<>();
+    private final AtomicInteger nextTransactionId = new AtomicInteger();
+
+    InMemoryTransactionRepository(InMemoryAccountRepository accounts) {
+        this.accounts = accounts;
+    }
+
+    @Override
+    public void log(int userId, String type, double amount, String description) throws SQLException {
+        if (!TYPES.contains(type)) {
+            throw new SQLException("Data truncated for column 'transaction_type'");
+        }
+        if (accounts.findById(userId) == null) {
+            throw new SQLIntegrityConstraintViolationException("Cannot add or update a child row: a foreign key constraint fails (user_id " + userId + ")");
+        }
+
+        // TIMESTAMP columns keep whole seconds
+        Timestamp date = new Timestamp(System.currentTimeMillis() / 1000 * 1000);
+        List<TransactionRecord> list = byUser.computeIfAbsent(userId, id -> new ArrayList<>());
+        accounts.writes().lock();
+        try {
+            synchronized (list) {
+                list.add(new TransactionRecord(nextTransactionId.incrementAndGet(), userId, type,
+                    Math.round(amount * 100) / 100.0, description, date));
+            }
+        } finally {
+            accounts.writes().unlock();
+        }
+    }
+
+    @Override
+    public List<TransactionRecord> findRecent(int userId, int limit) {
+        List<TransactionRecord> recent = new ArrayList<>();
+        List<TransactionRecord> list = byUser.get(userId);
+        if (list == null) {
+            return recent;
+        }
+        synchronized (list) {
+            for (int i = list.size() - 1; i >= 0 && recent.size() < limit; i--) {
+                recent.add(list.get(i));
+            }
+        }
+        return recent;
+    }
+
+    @Override
+    public List<TransactionRecord> findByTypeSince(Timestamp since, String... types) {
+        Set<String> wanted = new HashSet<>(Arrays.asList(types));
+        List<TransactionRecord> records = new ArrayList<>();
+        for (List<TransactionRecord> list : byUser.values()) {
+            synchronized (list) {
+                for (TransactionRecord record : list) {
+                    if (!record.getDate().before(since) && wanted.contains(record.getType())) {
+                        records.add(record);
+                    }
+                }
+            }
+        }
+        records.sort(BY_DATE);
+        return records;
+    }
+
+    @Override
+    public void streamBetween(Timestamp from, Timestamp until, BiConsumer<User, TransactionRecord> handler) {
+        for (int userId : new TreeSet<>(byUser.keySet())) {
+            List<TransactionRecord> list = byUser.get(userId);
+            List<TransactionRecord> rows = new ArrayList<>();
+            User account;
+
+            // Copy one user's rows and read the account together; this only keeps the two in step
+            // with each other while no write runs, so callers that need that use readConsistently.
+            // The handler runs without holding the list lock.
+            synchronized (list) {
+                for (TransactionRecord record : list) {
+                    if (!record.getDate().before(from) && record.getDate().before(until)) {
+                        rows.add(record);
+                    }
+                }
+                account = accounts.findById(userId);
+            }
+            if (account == null) {
+                continue;
+            }
+
+            rows.sort(BY_DATE);
+            for (TransactionRecord record : rows) {
+                handler.accept(account, record);
+            }
+        }
+    }
+
+    @Override
+    public Map<Integer, Double> netMovementSince(Timestamp since) {
+        Map<Integer, Double> net = new HashMap<>();
+        for (Map.Entry<Integer, List<TransactionRecord>> entry : byUser.entrySet()) {
+            List<TransactionRecord> list = entry.getValue();
+            boolean monetary = false;
+            double total = 0;
+            synchronized (list) {
+                for (TransactionRecord record : list) {
+                    double signed = record.getSignedAmount();
+                    if (signed != 0 && !record.getDate().before(since)) {
+                        monetary = true;
+                        total += signed;
+                    }
+                }
+            }
+            if (monetary) {
+                net.put(entry.getKey(), Math.round(total * 100) / 100.0);
+            }
+        }
+        return net;
+    }
+
+    @Override
+    public void readConsistently(ReadAction action) throws SQLException {
+        // Writes hold the shared side of the store lock, so taking the exclusive side waits for
+        // any write in flight and keeps new ones out until the action is done
+        accounts.consistentReads().lock();
+        try {
+            action.run();
+        } finally {
+            accounts.consistentReads().unlock();
+        }
+    }
+}
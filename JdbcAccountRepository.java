@@ -0,0 +1,150 @@
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MySQL Account Storage
+ * JDBC implementation of AccountRepository against the users table.
+ */
+class JdbcAccountRepository implements AccountRepository {
+
+    private final Connection connection;
+
+    JdbcAccountRepository(Connection connection) {
+        this.connection = connection;
+    }
+
+    @Override
+    public User findByCredentials(String accountNumber, String passwordHash) throws SQLException {
+        String query = "SELECT * FROM users WHERE account_number = ? AND password = ?";
+        PreparedStatement stmt = connection.prepareStatement(query);
+        stmt.setString(1, accountNumber);
+        stmt.setString(2, passwordHash);
+        return findOne(stmt);
+    }
+
+    @Override
+    public User findByAccountNumber(String accountNumber) throws SQLException {
+        String query = "SELECT * FROM users WHERE account_number = ?";
+        PreparedStatement stmt = connection.prepareStatement(query);
+        stmt.setString(1, accountNumber);
+        return findOne(stmt);
+    }
+
+    @Override
+    public User findByEmail(String email) throws SQLException {
+        String query = "SELECT * FROM users WHERE email = ?";
+        PreparedStatement stmt = connection.prepareStatement(query);
+        stmt.setString(1, email);
+        return findOne(stmt);
+    }
+
+    @Override
+    public int create(String accountNumber, String fullName, String email, String phone,
+                      String passwordHash, double balance, String role) throws SQLException {
+        String query = "INSERT INTO users (account_number, full_name, email, phone, password, balance, role) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);
+        stmt.setString(1, accountNumber);
+        stmt.setString(2, fullName);
+        stmt.setString(3, email);
+        stmt.setString(4, phone);
+        stmt.setString(5, passwordHash);
+        stmt.setDouble(6, balance);
+        stmt.setString(7, role);
+        stmt.executeUpdate();
+
+        ResultSet generatedKeys = stmt.getGeneratedKeys();
+        if (!generatedKeys.next()) {
+            throw new SQLException("No user id generated for account " + accountNumber);
+        }
+        return generatedKeys.getInt(1);
+    }
+
+    @Override
+    public boolean adjustBalance(int userId, double delta) throws SQLException {
+        String query = "UPDATE users SET balance = balance + ? WHERE user_id = ?";
+        PreparedStatement stmt = connection.prepareStatement(query);
+        stmt.setDouble(1, delta);
+        stmt.setInt(2, userId);
+        return stmt.executeUpdate() > 0;
+    }
+
+    @Override
+    public void transfer(int fromUserId, int toUserId, double amount) throws SQLException {
+        // Start transaction (ACID compliance)
+        connection.setAutoCommit(false);
+
+        try {
+            // Deduct from sender
+            String deductQuery = "UPDATE users SET balance = balance - ? WHERE user_id = ?";
+            PreparedStatement deductStmt = connection.prepareStatement(deductQuery);
+            deductStmt.setDouble(1, amount);
+            deductStmt.setInt(2, fromUserId);
+            if (deductStmt.executeUpdate() == 0) {
+                throw new SQLException("Sender account not found.");
+            }
+
+            // Add to recipient
+            String addQuery = "UPDATE users SET balance = balance + ? WHERE user_id = ?";
+            PreparedStatement addStmt = connection.prepareStatement(addQuery);
+            addStmt.setDouble(1, amount);
+            addStmt.setInt(2, toUserId);
+            if (addStmt.executeUpdate() == 0) {
+                throw new SQLException("Recipient account not found.");
+            }
+
+            connection.commit();
+        } catch (SQLException e) {
+            // Rollback on error
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    @Override
+    public String getPasswordHash(int userId) throws SQLException {
+        String query = "SELECT password FROM users WHERE user_id = ?";
+        PreparedStatement stmt = connection.prepareStatement(query);
+        stmt.setInt(1, userId);
+        ResultSet rs = stmt.executeQuery();
+        return rs.next() ? rs.getString("password") : null;
+    }
+
+    @Override
+    public boolean updatePassword(int userId, String passwordHash) throws SQLException {
+        String query = "UPDATE users SET password = ? WHERE user_id = ?";
+        PreparedStatement stmt = connection.prepareStatement(query);
+        stmt.setString(1, passwordHash);
+        stmt.setInt(2, userId);
+        return stmt.executeUpdate() > 0;
+    }
+
+    @Override
+    public List<User> findAll() throws SQLException {
+        Statement stmt = connection.createStatement();
+        ResultSet rs = stmt.executeQuery("SELECT * FROM users ORDER BY user_id");
+        List<User> users = new ArrayList<>();
+        while (rs.next()) {
+            users.add(toUser(rs));
+        }
+        return users;
+    }
+
+    private static User findOne(PreparedStatement stmt) throws SQLException {
+        ResultSet rs = stmt.executeQuery();
+        return rs.next() ? toUser(rs) : null;
+    }
+
+    static User toUser(ResultSet rs) throws SQLException {
+        return new User(
+            rs.getInt("user_id"),
+            rs.getString("account_number"),
+            rs.getString("full_name"),
+            rs.getString("email"),
+            rs.getDouble("balance"),
+            rs.getString("role")
+        );
+    }
+}
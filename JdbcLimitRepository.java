@@ -0,0 +1,40 @@
+import java.sql.*;
+
+/**
+ * MySQL Velocity Limit Storage
+ * JDBC implementation of LimitRepository against the transaction_limits table.
+ */
+class JdbcLimitRepository implements LimitRepository {
+
+    private final Connection connection;
+
+    JdbcLimitRepository(Connection connection) {
+        this.connection = connection;
+    }
+
+    @Override
+    public void loadInto(VelocityLimiter limiter) throws SQLException {
+        Statement stmt = connection.createStatement();
+        ResultSet rs = stmt.executeQuery("SELECT window_name, max_count, max_amount FROM transaction_limits");
+        while (rs.next()) {
+            int w = VelocityLimiter.windowIndex(rs.getString("window_name"));
+            if (w >= 0) {
+                limiter.setLimit(w, rs.getLong("max_count"), rs.getDouble("max_amount"));
+            }
+        }
+    }
+
+    @Override
+    public void save(String windowName, long maxCount, double maxAmount) throws SQLException {
+        if (VelocityLimiter.windowIndex(windowName) < 0) {
+            return;   // not a window_name ENUM value
+        }
+        String query = "INSERT INTO transaction_limits (window_name, max_count, max_amount) VALUES (?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE max_count = VALUES(max_count), max_amount = VALUES(max_amount)";
+        PreparedStatement stmt = connection.prepareStatement(query);
+        stmt.setString(1, windowName);
+        stmt.setLong(2, maxCount);
+        stmt.setDouble(3, maxAmount);
+        stmt.executeUpdate();
+    }
+}
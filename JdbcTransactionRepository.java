@@ -0,0 +1,139 @@
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * MySQL Transaction Storage
+ * JDBC implementation of TransactionRepository against the transactions table.
+ */
+class JdbcTransactionRepository implements TransactionRepository {
+
+    // Same classification as TransactionRecord.getSignedAmount()
+    private static final String SIGNED_AMOUNT =
+        "CASE WHEN transaction_type IN ('DEPOSIT', 'TRANSFER_RECEIVED', 'ACCOUNT_CREATED') THEN amount "
+        + "WHEN transaction_type IN ('WITHDRAWAL', 'TRANSFER_SENT') THEN -amount ELSE 0 END";
+
+    private final Connection connection;
+
+    JdbcTransactionRepository(Connection connection) {
+        this.connection = connection;
+    }
+
+    @Override
+    public void log(int userId, String type, double amount, String description) throws SQLException {
+        String query = "INSERT INTO transactions (user_id, transaction_type, amount, description) VALUES (?, ?, ?, ?)";
+        PreparedStatement stmt = connection.prepareStatement(query);
+        stmt.setInt(1, userId);
+        stmt.setString(2, type);
+        stmt.setDouble(3, amount);
+        stmt.setString(4, description);
+        stmt.executeUpdate();
+    }
+
+    @Override
+    public List<TransactionRecord> findRecent(int userId, int limit) throws SQLException {
+        String query = "SELECT * FROM transactions WHERE user_id = ? ORDER BY transaction_date DESC, transaction_id DESC LIMIT ?";
+        PreparedStatement stmt = connection.prepareStatement(query);
+        stmt.setInt(1, userId);
+        stmt.setInt(2, limit);
+        return toList(stmt.executeQuery());
+    }
+
+    @Override
+    public List<TransactionRecord> findByTypeSince(Timestamp since, String... types) throws SQLException {
+        StringBuilder query = new StringBuilder("SELECT * FROM transactions WHERE transaction_date >= ? AND transaction_type IN (");
+        for (int i = 0; i < types.length; i++) {
+            query.append(i == 0 ? "?" : ", ?");
+        }
+        query.append(") ORDER BY transaction_date, transaction_id");
+
+        PreparedStatement stmt = connection.prepareStatement(query.toString());
+        stmt.setTimestamp(1, since);
+        for (int i = 0; i < types.length; i++) {
+            stmt.setString(i + 2, types[i]);
+        }
+        return toList(stmt.executeQuery());
+    }
+
+    @Override
+    public void streamBetween(Timestamp from, Timestamp until, BiConsumer<User, TransactionRecord> handler) throws SQLException {
+        String query = "SELECT t.*, u.account_number, u.full_name, u.email, u.balance, u.role "
+            + "FROM transactions t JOIN users u ON u.user_id = t.user_id "
+            + "WHERE t.transaction_date >= ? AND t.transaction_date < ? "
+            + "ORDER BY t.user_id, t.transaction_date, t.transaction_id";
+
+        // Forward-only, read-only with MIN_VALUE fetch size makes MySQL stream rows instead of loading them all.
+        // A streaming result set blocks the connection until closed, so both are closed on every path.
+        try (PreparedStatement stmt = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            stmt.setTimestamp(1, from);
+            stmt.setTimestamp(2, until);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                User account = null;
+                while (rs.next()) {
+                    if (account == null || account.getUserId() != rs.getInt("user_id")) {
+                        account = JdbcAccountRepository.toUser(rs);
+                    }
+                    handler.accept(account, toRecord(rs));
+                }
+            }
+        }
+    }
+
+    @Override
+    public Map<Integer, Double> netMovementSince(Timestamp since) throws SQLException {
+        String query = "SELECT user_id, SUM(" + SIGNED_AMOUNT + ") AS net FROM transactions "
+            + "WHERE transaction_date >= ? AND transaction_type IN ('DEPOSIT', 'TRANSFER_RECEIVED', 'ACCOUNT_CREATED', 'WITHDRAWAL', 'TRANSFER_SENT') "
+            + "GROUP BY user_id";
+
+        Map<Integer, Double> net = new HashMap<>();
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setTimestamp(1, since);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    net.put(rs.getInt("user_id"), rs.getDouble("net"));
+                }
+            }
+        }
+        return net;
+    }
+
+    @Override
+    public void readConsistently(ReadAction action) throws SQLException {
+        // One read-only REPEATABLE READ transaction: InnoDB serves every query in it from the
+        // snapshot taken at START TRANSACTION. Both settings apply to this transaction only.
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ");
+            stmt.execute("START TRANSACTION WITH CONSISTENT SNAPSHOT, READ ONLY");
+            try {
+                action.run();
+            } finally {
+                stmt.execute("COMMIT");
+            }
+        }
+    }
+
+    private static List<TransactionRecord> toList(ResultSet rs) throws SQLException {
+        List<TransactionRecord> records = new ArrayList<>();
+        while (rs.next()) {
+            records.add(toRecord(rs));
+        }
+        return records;
+    }
+
+    private static TransactionRecord toRecord(ResultSet rs) throws SQLException {
+        return new TransactionRecord(
+            rs.getInt("transaction_id"),
+            rs.getInt("user_id"),
+            rs.getString("transaction_type"),
+            rs.getDouble("amount"),
+            rs.getString("description"),
+            rs.getTimestamp("transaction_date")
+        );
+    }
+}
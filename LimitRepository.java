@@ -0,0 +1,14 @@
+import java.sql.SQLException;
+
+/**
+ * Velocity Limit Storage
+ * Admin-configured limits per window (the transaction_limits table).
+ */
+interface LimitRepository {
+
+    // Apply every stored limit to the limiter; rows for unknown windows are skipped
+    void loadInto(VelocityLimiter limiter) throws SQLException;
+
+    // Insert or replace the limits for one window; unknown window names are ignored
+    void save(String windowName, long maxCount, double maxAmount) throws SQLException;
+}
@@ -0,0 +1,202 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Monthly Statement Generation
+ * Streams a month of transactions once (ordered by user), groups rows per account on the fly
+ * and hands each finished statement to a pool of writer threads.
+ */
+class StatementGenerator {
+
+    private static final int PROGRESS_INTERVAL = 1000;
+
+    private final TransactionRepository transactions;
+    private final int writerThreads;
+
+    private final AtomicInteger written = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    StatementGenerator(TransactionRepository transactions, int writerThreads) {
+        this.transactions = transactions;
+        this.writerThreads = writerThreads;
+    }
+
+    // Generate one statement file per account with activity in the month; returns the number written
+    int generate(YearMonth month, Path outputDir) throws SQLException, IOException, InterruptedException {
+        Files.createDirectories(outputDir);
+        written.set(0);
+        failed.set(0);
+
+        // A small bounded queue keeps memory flat: when writers fall behind, the reader
+        // renders the statement itself instead of buffering more accounts
+        ThreadPoolExecutor writers = new ThreadPoolExecutor(writerThreads, writerThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(writerThreads * 2), new ThreadPoolExecutor.CallerRunsPolicy());
+
+        long startNanos = System.nanoTime();
+        Timestamp monthStart = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp monthEnd = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+
+        long[] rows = {0};
+        int[] accounts = {0};
+        AccountStatement[] current = {null};
+
+        try {
+            // Only the month's rows are streamed. Movement after the month is aggregated by the storage:
+            // opening balance = current balance - net movement since month end - net movement in the month.
+            // Both reads run against one snapshot so balances and movement agree.
+            transactions.readConsistently(() -> {
+                Map<Integer, Double> netAfterMonth = transactions.netMovementSince(monthEnd);
+                transactions.streamBetween(monthStart, monthEnd, (account, record) -> {
+                    rows[0]++;
+                    if (current[0] == null || current[0].userId != account.getUserId()) {
+                        if (current[0] != null && current[0].hasActivity()) {
+                            submit(writers, current[0], outputDir);
+                            accounts[0]++;
+                            if (accounts[0] % PROGRESS_INTERVAL == 0) {
+                                printProgress(accounts[0], rows[0], startNanos);
+                            }
+                        }
+                        current[0] = new AccountStatement(month, account,
+                            netAfterMonth.getOrDefault(account.getUserId(), 0.0));
+                    }
+                    current[0].add(record);
+                });
+            });
+
+            if (current[0] != null && current[0].hasActivity()) {
+                submit(writers, current[0], outputDir);
+                accounts[0]++;
+            }
+        } finally {
+            writers.shutdown();
+            writers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+
+        double seconds = Math.max((System.nanoTime() - startNanos) / 1_000_000_000.0, 0.001);
+        System.out.println("✓ Statements generated: " + written.get() + " (" + failed.get() + " failed)");
+        System.out.printf("  Rows read: %d | Time: %.2fs | Throughput: %.1f statements/s, %.1f rows/s%n",
+            rows[0], seconds, written.get() / seconds, rows[0] / seconds);
+        return written.get();
+    }
+
+    private void submit(ThreadPoolExecutor writers, AccountStatement statement, Path outputDir) {
+        writers.execute(() -> {
+            Path file = outputDir.resolve("statement_" + statement.accountNumber + "_" + statement.month + ".txt");
+            try {
+                writeFile(file, statement.render());
+                written.incrementAndGet();
+            } catch (IOException e) {
+                failed.incrementAndGet();
+                System.err.println("Warning: Failed to write statement " + file + ": " + e.getMessage());
+            }
+        });
+    }
+
+    private void printProgress(int accounts, long rows, long startNanos) {
+        double seconds = Math.max((System.nanoTime() - startNanos) / 1_000_000_000.0, 0.001);
+        System.out.printf("  ... %d accounts read, %d written, %d rows (%.1f rows/s)%n",
+            accounts, written.get(), rows, rows / seconds);
+    }
+
+    private static void writeFile(Path file, String content) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    // One account's rows for the month
+    private static class AccountStatement {
+        final YearMonth month;
+        final int userId;
+        final String accountNumber;
+        final String fullName;
+        final double closingBalance;
+        final List<TransactionRecord> rows = new ArrayList<>();
+        double netInMonth;
+        boolean activity;
+
+        AccountStatement(YearMonth month, User account, double netAfterMonth) {
+            this.month = month;
+            this.userId = account.getUserId();
+            this.accountNumber = account.getAccountNumber();
+            this.fullName = account.getFullName();
+            this.closingBalance = account.getBalance() - netAfterMonth;
+        }
+
+        // Only monetary rows are kept; the rest just mark the account as active
+        void add(TransactionRecord record) {
+            double signed = record.getSignedAmount();
+            netInMonth += signed;
+            activity = true;
+            if (signed != 0) {
+                rows.add(record);
+            }
+        }
+
+        boolean hasActivity() {
+            return activity;
+        }
+
+        String render() {
+            double openingBalance = closingBalance - netInMonth;
+            double balance = openingBalance;
+            double credits = 0;
+            double debits = 0;
+
+            StringBuilder body = new StringBuilder(rows.size() * 120);
+            for (TransactionRecord record : rows) {
+                double signed = record.getSignedAmount();
+                balance += signed;
+                if (signed > 0) {
+                    credits += signed;
+                } else {
+                    debits -= signed;
+                }
+                body.append(String.format("%-20s %-18s %12s %12s %14.2f  %s%n",
+                    record.getDate().toString().substring(0, 19), record.getType(),
+                    signed < 0 ? String.format("%.2f", -signed) : "",
+                    signed > 0 ? String.format("%.2f", signed) : "",
+                    balance, record.getDescription() == null ? "" : record.getDescription()));
+            }
+
+            StringBuilder sb = new StringBuilder(512 + body.length());
+            sb.append("═══════════════════════════════════════════════════════════════════════════════════════\n");
+            sb.append("                     SMART BANK - MONTHLY STATEMENT (").append(month).append(")\n");
+            sb.append("═══════════════════════════════════════════════════════════════════════════════════════\n");
+            sb.append("Account Number: ").append(accountNumber).append('\n');
+            sb.append("Name: ").append(fullName).append('\n');
+            sb.append(String.format("Opening Balance: ₹%.2f%n", openingBalance));
+            sb.append("───────────────────────────────────────────────────────────────────────────────────────\n");
+            sb.append(String.format("%-20s %-18s %12s %12s %14s  %s%n", "Date/Time", "Type", "Debit", "Credit", "Balance", "Description"));
+            sb.append("───────────────────────────────────────────────────────────────────────────────────────\n");
+            if (body.length() == 0) {
+                sb.append("No monetary transactions this month.\n");
+            }
+            sb.append(body);
+            sb.append("───────────────────────────────────────────────────────────────────────────────────────\n");
+            sb.append(String.format("Total Debits: ₹%.2f | Total Credits: ₹%.2f%n", debits, credits));
+            sb.append(String.format("Closing Balance: ₹%.2f%n", balance));
+            sb.append("═══════════════════════════════════════════════════════════════════════════════════════\n");
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,335 @@
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Storage Conformance Suite
+ * Runs the same checks against any AccountRepository/TransactionRepository/LimitRepository
+ * set so both backends are held to the same semantics.
+ *
+ * In-memory:  java StorageConformance
+ * MySQL:      java -cp ".:mysql-connector-java-8.x.xx.jar" StorageConformance mysql <url> <user> <password>
+ *             (run against a database created by database_setup.sql; test rows are removed and
+ *             the stored limits restored afterwards)
+ */
+public class StorageConformance {
+
+    private final AccountRepository accounts;
+    private final TransactionRepository transactions;
+    private final LimitRepository limits;
+
+    // Unique per run so the suite can share a database with existing data
+    private final String prefix = "CT" + (System.currentTimeMillis() % 100000000L);
+    private int nextAccount = 0;
+    private final Map<Integer, String> accountNumbers = new HashMap<>();
+
+    private int passed = 0;
+    private int failed = 0;
+
+    StorageConformance(AccountRepository accounts, TransactionRepository transactions, LimitRepository limits) {
+        this.accounts = accounts;
+        this.transactions = transactions;
+        this.limits = limits;
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean ok;
+        if (args.length > 0 && "mysql".equals(args[0])) {
+            if (args.length < 4) {
+                System.err.println("Usage: java StorageConformance mysql <url> <user> <password>");
+                System.exit(2);
+            }
+            try (Connection connection = DriverManager.getConnection(args[1], args[2], args[3])) {
+                LimitRepository limits = new JdbcLimitRepository(connection);
+                StorageConformance suite = new StorageConformance(
+                    new JdbcAccountRepository(connection), new JdbcTransactionRepository(connection), limits);
+
+                // Entries are stamped by the server, so time bounds come from its clock too
+                Timestamp start;
+                try (Statement stmt = connection.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT CURRENT_TIMESTAMP")) {
+                    rs.next();
+                    start = rs.getTimestamp(1);
+                }
+
+                VelocityLimiter stored = new VelocityLimiter();
+                limits.loadInto(stored);
+                try {
+                    ok = suite.run("MySQL", start);
+                } finally {
+                    // transactions rows go with their users (ON DELETE CASCADE)
+                    try (PreparedStatement stmt = connection.prepareStatement("DELETE FROM users WHERE account_number LIKE ?")) {
+                        stmt.setString(1, suite.prefix + "%");
+                        stmt.executeUpdate();
+                    }
+                    for (int w = 0; w < VelocityLimiter.WINDOW_NAMES.length; w++) {
+                        limits.save(VelocityLimiter.WINDOW_NAMES[w], stored.getMaxCount(w), stored.getMaxAmount(w));
+                    }
+                }
+            }
+        } else {
+            InMemoryAccountRepository memoryAccounts = new InMemoryAccountRepository();
+            StorageConformance suite = new StorageConformance(memoryAccounts,
+                new InMemoryTransactionRepository(memoryAccounts), new InMemoryLimitRepository());
+            // Entries keep whole seconds
+            ok = suite.run("In-memory", new Timestamp(System.currentTimeMillis() / 1000 * 1000));
+        }
+        System.exit(ok ? 0 : 1);
+    }
+
+    // start: the storage's current time, taken before any entry is logged. Entries are told
+    // apart by this run's own user ids, so range bounds around start can be wide.
+    boolean run(String backend, Timestamp start) throws Exception {
+        System.out.println("═══════════════ STORAGE CONFORMANCE: " + backend + " ═══════════════");
+
+        uniqueKeys();
+        caseInsensitiveLookup();
+        unknownIds();
+        failedTransfer();
+        logValidation();
+        recentNewestFirst();
+        typeSinceFilterAndOrder(start);
+        streamOrderAndNetMovement(start);
+        limitRoundTrip();
+
+        System.out.println("─────────────────────────────────────────────────────");
+        System.out.println((failed == 0 ? "✓ " : "❌ ") + passed + " passed, " + failed + " failed");
+        return failed == 0;
+    }
+
+    // Duplicate account_number or email is rejected as a constraint violation
+    private void uniqueKeys() throws SQLException {
+        String accountNumber = newAccountNumber();
+        String email = accountNumber + "@conformance.test";
+        accounts.create(accountNumber, "Unique Keys", email, null, "hash", 5000, "USER");
+
+        expectConstraintViolation("duplicate account_number is rejected",
+            () -> accounts.create(accountNumber, "Other", "other-" + email, null, "hash", 5000, "USER"));
+        expectConstraintViolation("duplicate email is rejected",
+            () -> accounts.create(newAccountNumber(), "Other", email, null, "hash", 5000, "USER"));
+    }
+
+    // Account number and email lookups ignore case, like MySQL's default collation
+    private void caseInsensitiveLookup() throws SQLException {
+        int userId = createAccount(5000);
+        User user = accounts.findByCredentials(accountNumbers.get(userId), "hash");
+
+        User byNumber = accounts.findByAccountNumber(user.getAccountNumber().toLowerCase());
+        check("account number lookup ignores case", byNumber != null && byNumber.getUserId() == userId);
+
+        User byEmail = accounts.findByEmail(user.getEmail().toUpperCase());
+        check("email lookup ignores case", byEmail != null && byEmail.getUserId() == userId);
+    }
+
+    // Updates against a missing user id report false instead of failing
+    private void unknownIds() throws SQLException {
+        check("adjustBalance returns false for unknown id", !accounts.adjustBalance(-1, 100));
+        check("updatePassword returns false for unknown id", !accounts.updatePassword(-1, "hash"));
+        check("getPasswordHash returns null for unknown id", accounts.getPasswordHash(-1) == null);
+    }
+
+    // A transfer that fails changes neither balance
+    private void failedTransfer() throws SQLException {
+        int sender = createAccount(5000);
+        int recipient = createAccount(7000);
+
+        expectFailure("transfer to unknown recipient fails", () -> accounts.transfer(sender, -1, 1000));
+        check("sender balance unchanged after failed transfer", balanceOf(sender) == 5000);
+
+        expectFailure("transfer from unknown sender fails", () -> accounts.transfer(-1, recipient, 1000));
+        check("recipient balance unchanged after failed transfer", balanceOf(recipient) == 7000);
+
+        accounts.transfer(sender, recipient, 1000);
+        check("successful transfer moves both balances", balanceOf(sender) == 4000 && balanceOf(recipient) == 8000);
+    }
+
+    // Log entries need a known type and an existing user
+    private void logValidation() throws SQLException {
+        int userId = createAccount(5000);
+        expectFailure("log rejects unknown type", () -> transactions.log(userId, "BOGUS", 1, "x"));
+        expectFailure("log rejects unknown user", () -> transactions.log(-1, "DEPOSIT", 1, "x"));
+        check("rejected entries are not stored", transactions.findRecent(userId, 10).isEmpty());
+    }
+
+    // findRecent returns newest first and honours the limit
+    private void recentNewestFirst() throws SQLException {
+        int userId = createAccount(5000);
+        for (int i = 1; i <= 5; i++) {
+            transactions.log(userId, "DEPOSIT", i, "entry " + i);
+        }
+
+        List<TransactionRecord> recent = transactions.findRecent(userId, 3);
+        check("findRecent applies the limit", recent.size() == 3);
+        check("findRecent is newest first", recent.size() == 3
+            && "entry 5".equals(recent.get(0).getDescription())
+            && "entry 4".equals(recent.get(1).getDescription())
+            && "entry 3".equals(recent.get(2).getDescription()));
+    }
+
+    // findByTypeSince keeps only the requested types, oldest first
+    private void typeSinceFilterAndOrder(Timestamp start) throws SQLException {
+        int userId = createAccount(5000);
+        transactions.log(userId, "WITHDRAWAL", 10, "w1");
+        transactions.log(userId, "LOGIN", 0, "login");
+        transactions.log(userId, "TRANSFER_SENT", 20, "t1");
+        transactions.log(userId, "DEPOSIT", 30, "d1");
+        transactions.log(userId, "WITHDRAWAL", 40, "w2");
+
+        List<String> descriptions = new ArrayList<>();
+        TransactionRecord previous = null;
+        boolean ordered = true;
+        for (TransactionRecord record : transactions.findByTypeSince(start, "WITHDRAWAL", "TRANSFER_SENT")) {
+            if (previous != null && comesBefore(record, previous)) {
+                ordered = false;
+            }
+            previous = record;
+            if (record.getUserId() == userId) {
+                descriptions.add(record.getDescription());
+            }
+        }
+        check("findByTypeSince filters by type", descriptions.equals(Arrays.asList("w1", "t1", "w2")));
+        check("findByTypeSince is oldest first", ordered);
+
+        List<String> later = new ArrayList<>();
+        for (TransactionRecord record : transactions.findByTypeSince(plusDay(start), "WITHDRAWAL")) {
+            if (record.getUserId() == userId) {
+                later.add(record.getDescription());
+            }
+        }
+        check("findByTypeSince excludes older entries", later.isEmpty());
+    }
+
+    // streamBetween is ordered by user, then date, and bounded; netMovementSince sums credits minus debits
+    private void streamOrderAndNetMovement(Timestamp start) throws SQLException {
+        int first = createAccount(5000);
+        int second = createAccount(5000);
+        transactions.log(second, "DEPOSIT", 100, "s1");
+        transactions.log(first, "DEPOSIT", 200, "f1");
+        transactions.log(second, "WITHDRAWAL", 50, "s2");
+        transactions.log(first, "TRANSFER_SENT", 75, "f2");
+        transactions.log(first, "LOGIN", 0, "f3");
+
+        Timestamp until = plusDay(start);
+        List<TransactionRecord> streamed = new ArrayList<>();
+        boolean[] accountsMatch = {true};
+        transactions.streamBetween(start, until, (account, record) -> {
+            if (account.getUserId() != record.getUserId()) {
+                accountsMatch[0] = false;
+            }
+            if (record.getUserId() == first || record.getUserId() == second) {
+                streamed.add(record);
+            }
+        });
+
+        List<String> descriptions = new ArrayList<>();
+        for (TransactionRecord record : streamed) {
+            descriptions.add(record.getDescription());
+        }
+        List<String> expected = first < second
+            ? Arrays.asList("f1", "f2", "f3", "s1", "s2")
+            : Arrays.asList("s1", "s2", "f1", "f2", "f3");
+        check("streamBetween is ordered by user, then date", descriptions.equals(expected));
+        check("streamBetween passes the owning account", accountsMatch[0]);
+
+        int[] outside = {0};
+        BiConsumer<User, TransactionRecord> countOwn = (account, record) -> {
+            if (record.getUserId() == first || record.getUserId() == second) {
+                outside[0]++;
+            }
+        };
+        transactions.streamBetween(new Timestamp(start.getTime() - 86_400_000L), start, countOwn);
+        transactions.streamBetween(until, plusDay(until), countOwn);
+        check("streamBetween excludes rows outside the range", outside[0] == 0);
+
+        Map<Integer, Double> net = transactions.netMovementSince(start);
+        check("netMovementSince sums credits minus debits", net.get(first) != null && net.get(first) == 125.0
+            && net.get(second) != null && net.get(second) == 50.0);
+    }
+
+    // save replaces a window's limits, keeps counts exactly and ignores unknown windows
+    private void limitRoundTrip() throws SQLException {
+        limits.save("MINUTE", 5, 1000.00);
+        limits.save("MINUTE", Integer.MAX_VALUE, 12345.67);
+        limits.save("HOUR", 0, 0);
+
+        VelocityLimiter limiter = new VelocityLimiter();
+        limits.loadInto(limiter);
+        check("saving a window again replaces its limits",
+            limiter.getMaxAmount(VelocityLimiter.MINUTE) == 12345.67);
+        check("max count is kept exactly", limiter.getMaxCount(VelocityLimiter.MINUTE) == Integer.MAX_VALUE);
+        check("zero (disabled) limits are kept",
+            limiter.getMaxCount(VelocityLimiter.HOUR) == 0 && limiter.getMaxAmount(VelocityLimiter.HOUR) == 0);
+
+        boolean ignored;
+        try {
+            limits.save("WEEK", 7, 7000.00);
+            ignored = true;
+        } catch (SQLException e) {
+            ignored = false;
+        }
+        check("unknown window is ignored", ignored);
+    }
+
+    private static Timestamp plusDay(Timestamp time) {
+        return new Timestamp(time.getTime() + 86_400_000L);
+    }
+
+    private String newAccountNumber() {
+        return prefix + (char) ('A' + nextAccount / 26) + (char) ('A' + nextAccount++ % 26);
+    }
+
+    private int createAccount(double balance) throws SQLException {
+        String accountNumber = newAccountNumber();
+        int userId = accounts.create(accountNumber, "Conformance " + accountNumber, accountNumber + "@conformance.test",
+            null, "hash", balance, "USER");
+        accountNumbers.put(userId, accountNumber);
+        return userId;
+    }
+
+    private double balanceOf(int userId) throws SQLException {
+        return accounts.findByAccountNumber(accountNumbers.get(userId)).getBalance();
+    }
+
+    private static boolean comesBefore(TransactionRecord a, TransactionRecord b) {
+        int byDate = a.getDate().compareTo(b.getDate());
+        return byDate < 0 || (byDate == 0 && a.getTransactionId() < b.getTransactionId());
+    }
+
+    private void check(String name, boolean ok) {
+        if (ok) {
+            passed++;
+            System.out.println("✓ " + name);
+        } else {
+            failed++;
+            System.out.println("❌ " + name);
+        }
+    }
+
+    private void expectFailure(String name, StorageAction action) {
+        try {
+            action.run();
+            check(name, false);
+        } catch (SQLException e) {
+            check(name, true);
+        }
+    }
+
+    private void expectConstraintViolation(String name, StorageAction action) {
+        try {
+            action.run();
+            check(name, false);
+        } catch (SQLIntegrityConstraintViolationException e) {
+            check(name, true);
+        } catch (SQLException e) {
+            check(name + " (got " + e.getClass().getSimpleName() + ")", false);
+        }
+    }
+
+    private interface StorageAction {
+        void run() throws SQLException;
+    }
+}
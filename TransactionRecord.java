@@ -0,0 +1,39 @@
+import java.sql.Timestamp;
+
+// One row of the transactions table
+class TransactionRecord {
+    private int transactionId;
+    private int userId;
+    private String type;
+    private double amount;
+    private String description;
+    private Timestamp date;
+    
+    public TransactionRecord(int transactionId, int userId, String type, double amount, String description, Timestamp date) {
+        this.transactionId = transactionId;
+        this.userId = userId;
+        this.type = type;
+        this.amount = amount;
+        this.description = description;
+        this.date = date;
+    }
+    
+    // Getters
+    public int getTransactionId() { return transactionId; }
+    public int getUserId() { return userId; }
+    public String getType() { return type; }
+    public double getAmount() { return amount; }
+    public String getDescription() { return description; }
+    public Timestamp getDate() { return date; }
+    
+    // Effect on the balance: credits positive, debits negative, non-monetary entries zero
+    public double getSignedAmount() {
+        if ("DEPOSIT".equals(type) || "TRANSFER_RECEIVED".equals(type) || "ACCOUNT_CREATED".equals(type)) {
+            return amount;
+        }
+        if ("WITHDRAWAL".equals(type) || "TRANSFER_SENT".equals(type)) {
+            return -amount;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,40 @@
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Transaction Storage
+ * Append-only log of account activity (the transactions table).
+ */
+interface TransactionRepository {
+
+    // Append an entry; fails if the user does not exist or the type is unknown
+    void log(int userId, String type, double amount, String description) throws SQLException;
+
+    // Most recent entries for a user, newest first
+    List<TransactionRecord> findRecent(int userId, int limit) throws SQLException;
+
+    // Entries of the given types at or after a point in time, oldest first
+    List<TransactionRecord> findByTypeSince(Timestamp since, String... types) throws SQLException;
+
+    // Stream every entry in [from, until), ordered by user id and then date, together with
+    // the owning account. Rows are handed over one at a time so callers can process a whole
+    // period with bounded memory.
+    void streamBetween(Timestamp from, Timestamp until, BiConsumer<User, TransactionRecord> handler) throws SQLException;
+
+    // Net balance movement (credits minus debits) per user at or after a point in time;
+    // users without monetary entries in that period are left out
+    Map<Integer, Double> netMovementSince(Timestamp since) throws SQLException;
+
+    // Run several reads against one consistent view of accounts and transactions: every read
+    // inside the action sees the same committed state, and no write lands between them.
+    // Each storage call commits on its own, so a balance change and the entry logged right
+    // after it may still be seen apart.
+    void readConsistently(ReadAction action) throws SQLException;
+
+    interface ReadAction {
+        void run() throws SQLException;
+    }
+}
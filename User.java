@@ -0,0 +1,29 @@
+// User class (OOP)
+class User {
+    private int userId;
+    private String accountNumber;
+    private String fullName;
+    private String email;
+    private double balance;
+    private String role;
+    
+    public User(int userId, String accountNumber, String fullName, String email, double balance, String role) {
+        this.userId = userId;
+        this.accountNumber = accountNumber;
+        this.fullName = fullName;
+        this.email = email;
+        this.balance = balance;
+        this.role = role;
+    }
+    
+    // Getters
+    public int getUserId() { return userId; }
+    public String getAccountNumber() { return accountNumber; }
+    public String getFullName() { return fullName; }
+    public String getEmail() { return email; }
+    public double getBalance() { return balance; }
+    public String getRole() { return role; }
+    
+    // Setters
+    public void setBalance(double balance) { this.balance = balance; }
+}
\ No newline at end of file
@@ -0,0 +1,236 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Velocity & Fraud Limits
+ * Per-account sliding-window counters (count and amount over 1 minute, 1 hour, 1 day)
+ * checked in memory before any withdrawal or transfer reaches the database.
+ */
+class VelocityLimiter {
+
+    // Window configuration: each window is a ring of fixed-width time buckets
+    static final int MINUTE = 0;
+    static final int HOUR = 1;
+    static final int DAY = 2;
+    static final String[] WINDOW_NAMES = {"MINUTE", "HOUR", "DAY"};
+    private static final long[] BUCKET_MILLIS = {1000L, 60_000L, 900_000L};   // 1s, 1min, 15min
+    private static final int[] BUCKETS = {60, 60, 96};
+    private static final int[] OFFSETS = {0, 60, 120};
+    private static final int TOTAL_BUCKETS = 216;
+
+    // Each bucket is one long: upper 24 bits tag the bucket epoch, lower 40 bits hold the value.
+    // Tag and value change together in a single CAS, so no locks are needed. Values saturate
+    // at VALUE_MASK (about ₹1.1e10 in paise) and a saturated bucket stays full until it expires.
+    private static final int VALUE_BITS = 40;
+    private static final long VALUE_MASK = (1L << VALUE_BITS) - 1;
+    private static final long TAG_MASK = (1L << 24) - 1;
+
+    // Default limits (0 or less disables the limit)
+    private static final Limits DEFAULT_LIMITS = new Limits(
+        new long[] {3, 10, 20},
+        new long[] {50_000_00L, 2_00_000_00L, 5_00_000_00L});   // in paise
+
+    // Accounts with no debit in the last day are swept out at most once per interval
+    private static final long SWEEP_INTERVAL_MILLIS = 900_000L;
+
+    private final ConcurrentHashMap<Integer, AccountWindows> accounts = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong();
+
+    // All limits live in one immutable snapshot, swapped with CAS
+    private final AtomicReference<Limits> limits = new AtomicReference<>(DEFAULT_LIMITS);
+
+    // Reserve a debit against every window; returns the violation message (nothing reserved) or null.
+    // The debit is added first and the windows checked afterwards, so two concurrent debits can
+    // never both pass when only one fits. Call release() with the same arguments if the debit fails.
+    String tryAcquire(int userId, double amount, long nowMillis) {
+        maybeSweep(nowMillis);
+        long amountPaise = toPaise(amount);
+        Limits current = limits.get();
+        AccountWindows windows = addLive(userId, 1, amountPaise, nowMillis);
+
+        for (int w = 0; w < BUCKETS.length; w++) {
+            long usedCount = windows.sum(windows.counts, w, nowMillis);
+            long usedAmount = windows.sum(windows.amounts, w, nowMillis);
+
+            String violation = null;
+            if (current.maxCount[w] > 0 && usedCount > current.maxCount[w]) {
+                violation = "Too many debits: limit of " + current.maxCount[w] + " per " + WINDOW_NAMES[w].toLowerCase() + " reached.";
+            } else if (current.maxAmount[w] > 0 && usedAmount > current.maxAmount[w]) {
+                violation = "Amount limit of ₹" + String.format("%.2f", current.maxAmount[w] / 100.0) + " per "
+                    + WINDOW_NAMES[w].toLowerCase() + " exceeded (already used ₹"
+                    + String.format("%.2f", Math.max(usedAmount - amountPaise, 0) / 100.0) + ").";
+            }
+            if (violation != null) {
+                windows.add(-1, -amountPaise, nowMillis);
+                return violation;
+            }
+        }
+        return null;
+    }
+
+    // Undo a successful tryAcquire whose debit did not go through
+    void release(int userId, double amount, long nowMillis) {
+        AccountWindows windows = accounts.get(userId);
+        if (windows != null) {
+            windows.add(-1, -toPaise(amount), nowMillis);
+        }
+    }
+
+    // Record a completed debit without checking limits (used when rebuilding)
+    void record(int userId, double amount, long timeMillis) {
+        addLive(userId, 1, toPaise(amount), timeMillis);
+    }
+
+    // Forget all counters (used before rebuilding from the transactions table)
+    void clear() {
+        accounts.clear();
+    }
+
+    // Number of accounts currently holding counters
+    int trackedAccounts() {
+        return accounts.size();
+    }
+
+    // Index of a window by name, or -1 if there is no such window
+    static int windowIndex(String name) {
+        for (int w = 0; w < WINDOW_NAMES.length; w++) {
+            if (WINDOW_NAMES[w].equals(name)) {
+                return w;
+            }
+        }
+        return -1;
+    }
+
+    long getMaxCount(int window) { return limits.get().maxCount[window]; }
+    double getMaxAmount(int window) { return limits.get().maxAmount[window] / 100.0; }
+
+    // Update the limits for one window
+    void setLimit(int window, long count, double amount) {
+        long amountPaise = toPaise(amount);
+        limits.updateAndGet(current -> current.with(window, count, amountPaise));
+    }
+
+    // Add to the account's counters, retrying if a concurrent sweep is retiring them
+    private AccountWindows addLive(int userId, long count, long amountPaise, long nowMillis) {
+        while (true) {
+            AccountWindows windows = accounts.computeIfAbsent(userId, id -> new AccountWindows());
+            windows.add(count, amountPaise, nowMillis);
+            if (!windows.retired) {
+                return windows;
+            }
+            windows.add(-count, -amountPaise, nowMillis);
+        }
+    }
+
+    private void maybeSweep(long nowMillis) {
+        long last = lastSweep.get();
+        if (nowMillis - last >= SWEEP_INTERVAL_MILLIS && lastSweep.compareAndSet(last, nowMillis)) {
+            sweep(nowMillis);
+        }
+    }
+
+    // Drop accounts whose every bucket has expired. The account is marked retired before the
+    // second idle check: a concurrent add either shows up in that check (the account is kept)
+    // or sees the flag and retries against a fresh entry, so no debit is lost.
+    private void sweep(long nowMillis) {
+        for (Map.Entry<Integer, AccountWindows> entry : accounts.entrySet()) {
+            AccountWindows windows = entry.getValue();
+            if (windows.isIdle(nowMillis)) {
+                windows.retired = true;
+                if (windows.isIdle(nowMillis)) {
+                    accounts.remove(entry.getKey(), windows);
+                } else {
+                    windows.retired = false;
+                }
+            }
+        }
+    }
+
+    private static long toPaise(double amount) {
+        return Math.min(Math.round(amount * 100), VALUE_MASK);
+    }
+
+    // Immutable limit configuration for all windows
+    private static class Limits {
+        final long[] maxCount;
+        final long[] maxAmount;
+
+        Limits(long[] maxCount, long[] maxAmount) {
+            this.maxCount = maxCount;
+            this.maxAmount = maxAmount;
+        }
+
+        Limits with(int window, long count, long amountPaise) {
+            long[] counts = maxCount.clone();
+            long[] amounts = maxAmount.clone();
+            counts[window] = count;
+            amounts[window] = amountPaise;
+            return new Limits(counts, amounts);
+        }
+    }
+
+    // Sliding-window counters for one account
+    private static class AccountWindows {
+        final AtomicLongArray counts = new AtomicLongArray(TOTAL_BUCKETS);
+        final AtomicLongArray amounts = new AtomicLongArray(TOTAL_BUCKETS);
+        volatile boolean retired;
+
+        void add(long count, long amountPaise, long timeMillis) {
+            for (int w = 0; w < BUCKETS.length; w++) {
+                long epoch = timeMillis / BUCKET_MILLIS[w];
+                int slot = OFFSETS[w] + (int) (epoch % BUCKETS[w]);
+                addToBucket(counts, slot, epoch & TAG_MASK, BUCKETS[w], count);
+                addToBucket(amounts, slot, epoch & TAG_MASK, BUCKETS[w], amountPaise);
+            }
+        }
+
+        long sum(AtomicLongArray words, int w, long nowMillis) {
+            long current = nowMillis / BUCKET_MILLIS[w];
+            long total = 0;
+            for (int k = 0; k < BUCKETS[w]; k++) {
+                long epoch = current - k;
+                long word = words.get(OFFSETS[w] + (int) (epoch % BUCKETS[w]));
+                if ((word >>> VALUE_BITS) == (epoch & TAG_MASK)) {
+                    total += word & VALUE_MASK;
+                }
+            }
+            return total;
+        }
+
+        // The day window spans the other two, so an empty day window means nothing is left
+        boolean isIdle(long nowMillis) {
+            return sum(counts, DAY, nowMillis) == 0 && sum(amounts, DAY, nowMillis) == 0;
+        }
+
+        private static void addToBucket(AtomicLongArray words, int slot, long tag, int span, long delta) {
+            while (true) {
+                long current = words.get(slot);
+                long currentTag = current >>> VALUE_BITS;
+                long value;
+                if (currentTag == tag) {
+                    value = current & VALUE_MASK;
+                    if (value == VALUE_MASK) {
+                        return;   // saturated
+                    }
+                } else if (current != 0 && ((currentTag - tag) & TAG_MASK) <= span) {
+                    // Epochs only share a slot a whole ring apart, so a genuinely newer occupant is
+                    // exactly one ring ahead: this event (late replay or release) has expired
+                    return;
+                } else {
+                    // Bucket holds an older epoch (including any tag that wrapped around): start it over
+                    if (delta < 0) {
+                        return;   // releasing from an epoch that has already expired
+                    }
+                    value = 0;
+                }
+                long next = (tag << VALUE_BITS) | Math.max(0, Math.min(value + delta, VALUE_MASK));
+                if (words.compareAndSet(slot, current, next)) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Velocity Limiter Checks
+ * Drives VelocityLimiter with explicit timestamps so window expiry, release and long idle
+ * periods can be checked without waiting on the clock.
+ *
+ * Run:  java VelocityLimiterCheck
+ */
+public class VelocityLimiterCheck {
+
+    private static final long MINUTE = 60_000L;
+    private static final long DAY = 24 * 60 * MINUTE;
+
+    // Fixed start so the checks do not depend on where the clock falls within a bucket
+    private static final long T0 = 1_700_000_000_000L;
+
+    private int passed = 0;
+    private int failed = 0;
+
+    public static void main(String[] args) throws Exception {
+        System.exit(new VelocityLimiterCheck().run() ? 0 : 1);
+    }
+
+    boolean run() throws Exception {
+        System.out.println("═══════════════ VELOCITY LIMITER CHECKS ═══════════════");
+
+        countLimit();
+        releaseFreesSlot();
+        amountLimit();
+        idleAccount();
+        lateEvents();
+        eviction();
+        concurrentDebits();
+
+        System.out.println("─────────────────────────────────────────────────────");
+        System.out.println((failed == 0 ? "✓ " : "❌ ") + passed + " passed, " + failed + " failed");
+        return failed == 0;
+    }
+
+    // The per-minute count limit blocks the 4th debit and lifts once the minute has passed
+    private void countLimit() {
+        VelocityLimiter limiter = new VelocityLimiter();
+        check("first 3 debits in a minute pass", acquire(limiter, 1, 100, T0, 3) == 3);
+        check("4th debit in the same minute is blocked", limiter.tryAcquire(1, 100, T0 + 1000) != null);
+        check("debit passes once the minute has passed", limiter.tryAcquire(1, 100, T0 + MINUTE + 1000) == null);
+        check("limits are per account", limiter.tryAcquire(2, 100, T0 + 1000) == null);
+    }
+
+    // A released reservation no longer counts against the window
+    private void releaseFreesSlot() {
+        VelocityLimiter limiter = new VelocityLimiter();
+        acquire(limiter, 1, 100, T0, 3);
+        limiter.release(1, 100, T0);
+        check("released debit frees its slot", limiter.tryAcquire(1, 100, T0 + 1000) == null);
+        check("slot is taken again after the retry", limiter.tryAcquire(1, 100, T0 + 2000) != null);
+
+        limiter.release(1, 100, T0 + 2 * DAY);
+        check("release after expiry does not go negative", acquire(limiter, 1, 100, T0 + 2 * DAY, 4) == 3);
+    }
+
+    // The amount limit blocks a debit that would cross it, and a blocked debit reserves nothing
+    private void amountLimit() {
+        VelocityLimiter limiter = new VelocityLimiter();
+        limiter.setLimit(VelocityLimiter.MINUTE, 0, 1000);
+        check("debits up to the amount limit pass", limiter.tryAcquire(1, 600, T0) == null
+            && limiter.tryAcquire(1, 400, T0) == null);
+        check("debit over the amount limit is blocked", limiter.tryAcquire(1, 0.01, T0) != null);
+
+        VelocityLimiter fresh = new VelocityLimiter();
+        fresh.setLimit(VelocityLimiter.MINUTE, 0, 1000);
+        check("single debit over the limit is blocked", fresh.tryAcquire(1, 1500, T0) != null);
+        check("blocked debit reserves nothing", fresh.tryAcquire(1, 1000, T0) == null);
+    }
+
+    // Buckets left over from long ago never look newer than the current epoch
+    private void idleAccount() {
+        for (int days : new int[] {1, 97, 120, 195, 400}) {
+            VelocityLimiter limiter = new VelocityLimiter();
+            acquire(limiter, 1, 100, T0, 3);
+            long later = T0 + days * DAY;
+            check("limit applies after " + days + " idle days", acquire(limiter, 1, 100, later, 6) == 3);
+        }
+    }
+
+    // Replaying a debit older than the window does not wipe newer counts
+    private void lateEvents() {
+        VelocityLimiter limiter = new VelocityLimiter();
+        acquire(limiter, 1, 100, T0 + MINUTE, 3);
+        limiter.record(1, 100, T0);
+        check("late replay keeps newer counts", limiter.tryAcquire(1, 100, T0 + MINUTE) != null);
+    }
+
+    // Accounts with nothing left in any window are dropped by the periodic sweep
+    private void eviction() {
+        VelocityLimiter limiter = new VelocityLimiter();
+        for (int userId = 1; userId <= 100; userId++) {
+            limiter.tryAcquire(userId, 100, T0);
+        }
+        check("active accounts are tracked", limiter.trackedAccounts() == 100);
+
+        limiter.tryAcquire(1000, 100, T0 + DAY / 2);
+        check("accounts are kept while the day window holds debits", limiter.trackedAccounts() == 101);
+
+        limiter.tryAcquire(1000, 100, T0 + 2 * DAY);
+        check("idle accounts are swept", limiter.trackedAccounts() == 1);
+        check("swept account starts fresh", acquire(limiter, 1, 100, T0 + 2 * DAY, 4) == 3);
+    }
+
+    // Concurrent debits on one account never pass more than the limit
+    private void concurrentDebits() throws InterruptedException {
+        VelocityLimiter limiter = new VelocityLimiter();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch go = new CountDownLatch(1);
+        AtomicInteger passedDebits = new AtomicInteger();
+        for (int i = 0; i < 64; i++) {
+            pool.execute(() -> {
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (limiter.tryAcquire(1, 100, T0) == null) {
+                    passedDebits.incrementAndGet();
+                }
+            });
+        }
+        go.countDown();
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+        check("concurrent debits respect the limit", passedDebits.get() == 3);
+    }
+
+    // Try n debits at the same time; returns how many passed
+    private static int acquire(VelocityLimiter limiter, int userId, double amount, long timeMillis, int n) {
+        int ok = 0;
+        for (int i = 0; i < n; i++) {
+            if (limiter.tryAcquire(userId, amount, timeMillis) == null) {
+                ok++;
+            }
+        }
+        return ok;
+    }
+
+    private void check(String name, boolean ok) {
+        if (ok) {
+            passed++;
+            System.out.println("✓ " + name);
+        } else {
+            failed++;
+            System.out.println("❌ " + name);
+        }
+    }
+}
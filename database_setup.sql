@@ -7,6 +7,8 @@ CREATE DATABASE IF NOT EXISTS smart_banking;
 USE smart_banking;
 
 -- Drop existing tables (for fresh setup)
+-- To upgrade an existing database without losing data, run database_upgrade.sql instead
+DROP TABLE IF EXISTS transaction_limits;
 DROP TABLE IF EXISTS transactions;
 DROP TABLE IF EXISTS users;
 
@@ -45,9 +47,23 @@ CREATE TABLE transactions (
     transaction_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE,
     INDEX idx_user (user_id),
-    INDEX idx_date (transaction_date)
+    INDEX idx_date (transaction_date),
+    INDEX idx_user_date (user_id, transaction_date)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- Velocity limits per sliding window (configured by admins, 0 disables a limit)
+CREATE TABLE transaction_limits (
+    window_name ENUM('MINUTE', 'HOUR', 'DAY') PRIMARY KEY,
+    max_count INT NOT NULL DEFAULT 0,
+    max_amount DECIMAL(15, 2) NOT NULL DEFAULT 0.00
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT INTO transaction_limits (window_name, max_count, max_amount)
+VALUES
+('MINUTE', 3, 50000.00),
+('HOUR', 10, 200000.00),
+('DAY', 20, 500000.00);
+
 -- Create an admin account (password: admin123)
 -- SHA-256 hash of 'admin123'
 INSERT INTO users (account_number, full_name, email, phone, password, balance, role) 
@@ -0,0 +1,40 @@
+-- Smart Banking Management System - Schema Upgrade
+-- Database: MySQL
+-- Brings an existing database up to date without dropping any data.
+-- Safe to run more than once.
+
+USE smart_banking;
+
+-- Velocity limits per sliding window (configured by admins, 0 disables a limit)
+CREATE TABLE IF NOT EXISTS transaction_limits (
+    window_name ENUM('MINUTE', 'HOUR', 'DAY') PRIMARY KEY,
+    max_count INT NOT NULL DEFAULT 0,
+    max_amount DECIMAL(15, 2) NOT NULL DEFAULT 0.00
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Default limits; windows that are already configured keep their values
+INSERT IGNORE INTO transaction_limits (window_name, max_count, max_amount)
+VALUES
+('MINUTE', 3, 50000.00),
+('HOUR', 10, 200000.00),
+('DAY', 20, 500000.00);
+
+-- Per-user date index used by statement generation and limit rebuilds
+-- (MySQL has no ADD INDEX IF NOT EXISTS, so check information_schema first)
+SET @add_index = (
+    SELECT IF(COUNT(*) = 0,
+        'ALTER TABLE transactions ADD INDEX idx_user_date (user_id, transaction_date)',
+        'DO 0')
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE()
+      AND table_name = 'transactions'
+      AND index_name = 'idx_user_date'
+);
+PREPARE add_index_stmt FROM @add_index;
+EXECUTE add_index_stmt;
+DEALLOCATE PREPARE add_index_stmt;
+
+-- Display upgrade completion message
+SELECT 'Database upgrade completed successfully!' AS Status;
+SELECT * FROM transaction_limits;
+SHOW INDEX FROM transactions WHERE Key_name = 'idx_user_date';